@@ -0,0 +1,39 @@
+package com.weatherapi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weatherapi.model.WeatherResponse;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    /**
+     * Hide the cache bookkeeping fields from API responses. Applied to a copy
+     * of the mapper used for HTTP only; Redis and the snapshot store keep them.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (HttpMessageConverter<?> converter : converters) {
+            if (converter instanceof MappingJackson2HttpMessageConverter jsonConverter) {
+                ObjectMapper objectMapper = jsonConverter.getObjectMapper().copy();
+                objectMapper.addMixIn(WeatherResponse.class, ClientWeatherResponse.class);
+                jsonConverter.setObjectMapper(objectMapper);
+            }
+        }
+    }
+
+    private abstract static class ClientWeatherResponse {
+        @JsonIgnore
+        abstract Long getExpiresAt();
+
+        @JsonIgnore
+        abstract Long getFetchMillis();
+    }
+}
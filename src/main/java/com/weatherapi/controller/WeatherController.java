@@ -1,13 +1,20 @@
 package com.weatherapi.controller;
 
+import com.weatherapi.model.HotKey;
 import com.weatherapi.model.WeatherResponse;
 import com.weatherapi.service.WeatherService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -17,21 +24,28 @@ public class WeatherController {
     private static final Logger log = LoggerFactory.getLogger(WeatherController.class);
     
     private final WeatherService weatherService;
+    private final ApplicationAvailability applicationAvailability;
     
-    public WeatherController(WeatherService weatherService) {
+    public WeatherController(WeatherService weatherService,
+                             ApplicationAvailability applicationAvailability) {
         this.weatherService = weatherService;
+        this.applicationAvailability = applicationAvailability;
     }
 
     /**
-     * Get weather data for a specific city
+     * Get weather data for a specific city, optionally for a date range
      * 
      * GET /api/weather?city=London
      * GET /api/weather?city=New York
+     * GET /api/weather?city=London&start=2025-12-01&end=2025-12-07
      */
     @GetMapping("/weather")
-    public ResponseEntity<WeatherResponse> getWeather(@RequestParam String city) {
+    public ResponseEntity<WeatherResponse> getWeather(
+            @RequestParam String city,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
         log.info("Received weather request for city: {}", city);
-        WeatherResponse weather = weatherService.getWeather(city);
+        WeatherResponse weather = weatherService.getWeather(city, start, end);
         return ResponseEntity.ok(weather);
     }
 
@@ -40,11 +54,15 @@ public class WeatherController {
      * 
      * GET /api/weather/London
      * GET /api/weather/New%20York
+     * GET /api/weather/London?start=2025-12-01&end=2025-12-07
      */
     @GetMapping("/weather/{city}")
-    public ResponseEntity<WeatherResponse> getWeatherByPath(@PathVariable String city) {
+    public ResponseEntity<WeatherResponse> getWeatherByPath(
+            @PathVariable String city,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
         log.info("Received weather request for city: {}", city);
-        WeatherResponse weather = weatherService.getWeather(city);
+        WeatherResponse weather = weatherService.getWeather(city, start, end);
         return ResponseEntity.ok(weather);
     }
 
@@ -83,17 +101,43 @@ public class WeatherController {
     }
 
     /**
-     * Health check endpoint
+     * Get the most frequently requested cities
+     * 
+     * GET /api/cache/hotkeys
+     * GET /api/cache/hotkeys?limit=20
+     */
+    @GetMapping("/cache/hotkeys")
+    public ResponseEntity<List<HotKey>> getHotKeys(@RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(weatherService.getHotKeys(limit));
+    }
+
+    /**
+     * Get the distribution of cache expiry times
+     * 
+     * GET /api/cache/expiry-stats
+     */
+    @GetMapping("/cache/expiry-stats")
+    public ResponseEntity<Map<String, Object>> getExpiryStats() {
+        return ResponseEntity.ok(weatherService.getExpiryStats());
+    }
+
+    /**
+     * Health check endpoint. Reports STARTING with 503 until the
+     * application is ready, e.g. while the cache is being warmed.
      * 
      * GET /api/health
      */
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> healthCheck() {
+        boolean ready = applicationAvailability.getReadinessState() == ReadinessState.ACCEPTING_TRAFFIC;
+        
         Map<String, String> response = new HashMap<>();
-        response.put("status", "UP");
+        response.put("status", ready ? "UP" : "STARTING");
         response.put("service", "Weather API");
         response.put("timestamp", String.valueOf(System.currentTimeMillis()));
         
-        return ResponseEntity.ok(response);
+        return ResponseEntity
+                .status(ready ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+                .body(response);
     }
 }
@@ -0,0 +1,236 @@
+package com.weatherapi.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Memory-compact form of a WeatherResponse used for in-process caching.
+ * Metrics are kept in primitive double columns with NaN for missing values,
+ * and repeated strings (conditions, icons, hour timestamps) are interned.
+ * Converted back to the public WeatherResponse shape only when served.
+ */
+public final class CompactWeather {
+
+    private static final int MAX_INTERNED = 10_000;
+    private static final Map<String, String> INTERNED = new ConcurrentHashMap<>();
+
+    // Hourly metric columns, stored column-major in Day.hourMetrics
+    private static final int TEMP = 0;
+    private static final int HUMIDITY = 1;
+    private static final int PRECIP = 2;
+    private static final int PRECIP_PROB = 3;
+    private static final int WINDSPEED = 4;
+    private static final int PRESSURE = 5;
+    private static final int CLOUDCOVER = 6;
+    private static final int VISIBILITY = 7;
+    private static final int UV_INDEX = 8;
+    private static final int HOUR_COLUMNS = 9;
+
+    private final String resolvedAddress;
+    private final String address;
+    private final String timezone;
+    private final double latitude;
+    private final double longitude;
+    private final CurrentConditions currentConditions;
+    private final Day[] days;
+    private final String source;
+    private final Long cachedAt;
+    private final Long expiresAt;
+    private final Long fetchMillis;
+
+    private CompactWeather(WeatherResponse response) {
+        this.resolvedAddress = response.getResolvedAddress();
+        this.address = response.getAddress();
+        this.timezone = intern(response.getTimezone());
+        this.latitude = toPrimitive(response.getLatitude());
+        this.longitude = toPrimitive(response.getLongitude());
+        this.currentConditions = response.getCurrentConditions();
+        this.source = response.getSource();
+        this.cachedAt = response.getCachedAt();
+        this.expiresAt = response.getExpiresAt();
+        this.fetchMillis = response.getFetchMillis();
+
+        List<DayWeather> dayList = response.getDays();
+        if (dayList == null) {
+            this.days = null;
+        } else {
+            this.days = new Day[dayList.size()];
+            for (int i = 0; i < days.length; i++) {
+                days[i] = new Day(dayList.get(i));
+            }
+        }
+    }
+
+    public static CompactWeather from(WeatherResponse response) {
+        return new CompactWeather(response);
+    }
+
+    /**
+     * Expand back into the public response shape
+     */
+    public WeatherResponse toResponse() {
+        WeatherResponse response = new WeatherResponse();
+        response.setResolvedAddress(resolvedAddress);
+        response.setAddress(address);
+        response.setTimezone(timezone);
+        response.setLatitude(toBoxed(latitude));
+        response.setLongitude(toBoxed(longitude));
+        response.setCurrentConditions(currentConditions);
+        response.setSource(source);
+        response.setCachedAt(cachedAt);
+        response.setExpiresAt(expiresAt);
+        response.setFetchMillis(fetchMillis);
+
+        if (days != null) {
+            List<DayWeather> dayList = new ArrayList<>(days.length);
+            for (Day day : days) {
+                dayList.add(day.toDayWeather());
+            }
+            response.setDays(dayList);
+        }
+        return response;
+    }
+
+    private static final class Day {
+        private final String datetime;
+        private final double tempMax;
+        private final double tempMin;
+        private final double temp;
+        private final double humidity;
+        private final double precip;
+        private final double precipProb;
+        private final double windspeed;
+        private final double pressure;
+        private final double cloudcover;
+        private final double visibility;
+        private final double uvIndex;
+        private final String conditions;
+        private final String description;
+        private final String icon;
+
+        // Null when the day has no hourly data
+        private final String[] hourDatetimes;
+        private final double[] hourMetrics;
+        private final String[] hourConditions;
+        private final String[] hourIcons;
+
+        Day(DayWeather day) {
+            this.datetime = day.getDatetime();
+            this.tempMax = toPrimitive(day.getTempMax());
+            this.tempMin = toPrimitive(day.getTempMin());
+            this.temp = toPrimitive(day.getTemp());
+            this.humidity = toPrimitive(day.getHumidity());
+            this.precip = toPrimitive(day.getPrecip());
+            this.precipProb = toPrimitive(day.getPrecipProb());
+            this.windspeed = toPrimitive(day.getWindspeed());
+            this.pressure = toPrimitive(day.getPressure());
+            this.cloudcover = toPrimitive(day.getCloudcover());
+            this.visibility = toPrimitive(day.getVisibility());
+            this.uvIndex = toPrimitive(day.getUvIndex());
+            this.conditions = intern(day.getConditions());
+            this.description = intern(day.getDescription());
+            this.icon = intern(day.getIcon());
+
+            List<HourWeather> hours = day.getHours();
+            if (hours == null) {
+                this.hourDatetimes = null;
+                this.hourMetrics = null;
+                this.hourConditions = null;
+                this.hourIcons = null;
+                return;
+            }
+
+            int n = hours.size();
+            this.hourDatetimes = new String[n];
+            this.hourMetrics = new double[HOUR_COLUMNS * n];
+            this.hourConditions = new String[n];
+            this.hourIcons = new String[n];
+            for (int i = 0; i < n; i++) {
+                HourWeather hour = hours.get(i);
+                hourDatetimes[i] = intern(hour.getDatetime());
+                hourMetrics[TEMP * n + i] = toPrimitive(hour.getTemp());
+                hourMetrics[HUMIDITY * n + i] = toPrimitive(hour.getHumidity());
+                hourMetrics[PRECIP * n + i] = toPrimitive(hour.getPrecip());
+                hourMetrics[PRECIP_PROB * n + i] = toPrimitive(hour.getPrecipProb());
+                hourMetrics[WINDSPEED * n + i] = toPrimitive(hour.getWindspeed());
+                hourMetrics[PRESSURE * n + i] = toPrimitive(hour.getPressure());
+                hourMetrics[CLOUDCOVER * n + i] = toPrimitive(hour.getCloudcover());
+                hourMetrics[VISIBILITY * n + i] = toPrimitive(hour.getVisibility());
+                hourMetrics[UV_INDEX * n + i] = toPrimitive(hour.getUvIndex());
+                hourConditions[i] = intern(hour.getConditions());
+                hourIcons[i] = intern(hour.getIcon());
+            }
+        }
+
+        DayWeather toDayWeather() {
+            DayWeather day = new DayWeather();
+            day.setDatetime(datetime);
+            day.setTempMax(toBoxed(tempMax));
+            day.setTempMin(toBoxed(tempMin));
+            day.setTemp(toBoxed(temp));
+            day.setHumidity(toBoxed(humidity));
+            day.setPrecip(toBoxed(precip));
+            day.setPrecipProb(toBoxed(precipProb));
+            day.setWindspeed(toBoxed(windspeed));
+            day.setPressure(toBoxed(pressure));
+            day.setCloudcover(toBoxed(cloudcover));
+            day.setVisibility(toBoxed(visibility));
+            day.setUvIndex(toBoxed(uvIndex));
+            day.setConditions(conditions);
+            day.setDescription(description);
+            day.setIcon(icon);
+
+            if (hourDatetimes != null) {
+                int n = hourDatetimes.length;
+                List<HourWeather> hours = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) {
+                    HourWeather hour = new HourWeather();
+                    hour.setDatetime(hourDatetimes[i]);
+                    hour.setTemp(toBoxed(hourMetrics[TEMP * n + i]));
+                    hour.setHumidity(toBoxed(hourMetrics[HUMIDITY * n + i]));
+                    hour.setPrecip(toBoxed(hourMetrics[PRECIP * n + i]));
+                    hour.setPrecipProb(toBoxed(hourMetrics[PRECIP_PROB * n + i]));
+                    hour.setWindspeed(toBoxed(hourMetrics[WINDSPEED * n + i]));
+                    hour.setPressure(toBoxed(hourMetrics[PRESSURE * n + i]));
+                    hour.setCloudcover(toBoxed(hourMetrics[CLOUDCOVER * n + i]));
+                    hour.setVisibility(toBoxed(hourMetrics[VISIBILITY * n + i]));
+                    hour.setUvIndex(toBoxed(hourMetrics[UV_INDEX * n + i]));
+                    hour.setConditions(hourConditions[i]);
+                    hour.setIcon(hourIcons[i]);
+                    hours.add(hour);
+                }
+                day.setHours(hours);
+            }
+            return day;
+        }
+    }
+
+    private static double toPrimitive(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+
+    private static Double toBoxed(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    /**
+     * Share one instance of frequently repeated strings. The pool is bounded
+     * so unexpected free text cannot grow it without limit.
+     */
+    private static String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String existing = INTERNED.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        if (INTERNED.size() >= MAX_INTERNED) {
+            return value;
+        }
+        existing = INTERNED.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+}
@@ -0,0 +1,14 @@
+package com.weatherapi.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotKey {
+    private String key;
+    private String city;
+    private long count;
+}
@@ -25,6 +25,8 @@ public class WeatherResponse implements Serializable {
     // Metadata
     private String source;
     private Long cachedAt;
+    private Long expiresAt;
+    private Long fetchMillis;
     
     public WeatherResponse() {}
     
@@ -55,4 +57,10 @@ public class WeatherResponse implements Serializable {
     
     public Long getCachedAt() { return cachedAt; }
     public void setCachedAt(Long cachedAt) { this.cachedAt = cachedAt; }
+    
+    public Long getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Long expiresAt) { this.expiresAt = expiresAt; }
+    
+    public Long getFetchMillis() { return fetchMillis; }
+    public void setFetchMillis(Long fetchMillis) { this.fetchMillis = fetchMillis; }
 }
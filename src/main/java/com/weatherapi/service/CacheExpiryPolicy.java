@@ -0,0 +1,170 @@
+package com.weatherapi.service;
+
+import com.weatherapi.model.WeatherResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides when cache entries expire so that keys written together do not
+ * all expire together:
+ * - for TTLs longer than the upstream's update cadence, expiry is aligned
+ *   to just after an update in the location's timezone and spread over the
+ *   following cadence, so entries written an hour apart stay an hour apart
+ * - otherwise random jitter spreads entries over a window below the TTL
+ * - entries may be refreshed early with probability growing towards
+ *   expiry and with the observed fetch cost (XFetch)
+ */
+@Component
+public class CacheExpiryPolicy {
+
+    private static final long[] TTL_BUCKET_SECONDS = {60, 300, 900, 3600, 6 * 3600, 12 * 3600, 24 * 3600};
+    private static final String[] TTL_BUCKET_LABELS = {"<1m", "<5m", "<15m", "<1h", "<6h", "<12h", "<24h", ">=24h"};
+
+    @Value("${weather.cache.expiry.jitter:0.1}")
+    private double jitterFraction;
+
+    @Value("${weather.cache.expiry.align-to-cadence:true}")
+    private boolean alignToCadence;
+
+    @Value("${weather.cache.expiry.cadence-minutes:60}")
+    private long cadenceMinutes;
+
+    @Value("${weather.cache.expiry.publish-delay-seconds:300}")
+    private long publishDelaySeconds;
+
+    @Value("${weather.cache.expiry.xfetch-beta:1.0}")
+    private double xfetchBeta;
+
+    private final LongAdder scheduled = new LongAdder();
+    private final LongAdder aligned = new LongAdder();
+    private final LongAdder earlyRefreshes = new LongAdder();
+    private final AtomicLongArray ttlBuckets = new AtomicLongArray(TTL_BUCKET_LABELS.length);
+    private final AtomicLongArray expiryMinuteOfHour = new AtomicLongArray(60);
+
+    /**
+     * Compute the expiry time for an entry written now. Never later than
+     * now + baseTtlSeconds.
+     *
+     * @param timezone IANA timezone of the location, may be null
+     * @return expiry time in epoch millis
+     */
+    public long expiresAt(long nowMillis, long baseTtlSeconds, String timezone) {
+        long baseMillis = baseTtlSeconds * 1000;
+        long cadenceMillis = cadenceMinutes * 60_000;
+        long jitterWindow = (long) (baseMillis * jitterFraction);
+        long latest = nowMillis + baseMillis - jitterWindow;
+        long expiresAt = latest;
+
+        // Aligning a TTL no longer than the cadence would pull everything
+        // written within a cadence onto one boundary
+        if (alignToCadence && baseMillis > cadenceMillis) {
+            long boundary = alignedExpiry(latest, resolveZone(timezone));
+            if (boundary > nowMillis) {
+                expiresAt = boundary;
+                jitterWindow = Math.max(jitterWindow, Math.min(cadenceMillis, nowMillis + baseMillis - boundary));
+                aligned.increment();
+            }
+        }
+
+        if (jitterWindow > 0) {
+            expiresAt += ThreadLocalRandom.current().nextLong(jitterWindow + 1);
+        }
+        expiresAt = Math.max(expiresAt, nowMillis + 1000);
+
+        record(nowMillis, expiresAt);
+        return expiresAt;
+    }
+
+    /**
+     * XFetch: decide whether a still-valid entry should be refreshed early.
+     * The closer the entry is to expiry and the more expensive it was to
+     * fetch, the more likely one request refreshes it before it expires.
+     */
+    public boolean shouldRefreshEarly(WeatherResponse entry, long nowMillis) {
+        if (entry.getExpiresAt() == null || entry.getFetchMillis() == null || xfetchBeta <= 0) {
+            return false;
+        }
+
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        double gap = entry.getFetchMillis() * xfetchBeta * -Math.log(random);
+        if (nowMillis + gap >= entry.getExpiresAt()) {
+            earlyRefreshes.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Distribution of the expiry times handed out so far
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Long> ttls = new LinkedHashMap<>();
+        for (int i = 0; i < TTL_BUCKET_LABELS.length; i++) {
+            ttls.put(TTL_BUCKET_LABELS[i], ttlBuckets.get(i));
+        }
+
+        long[] minutes = new long[60];
+        for (int i = 0; i < minutes.length; i++) {
+            minutes[i] = expiryMinuteOfHour.get(i);
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("scheduled", scheduled.sum());
+        stats.put("aligned", aligned.sum());
+        stats.put("earlyRefreshes", earlyRefreshes.sum());
+        stats.put("ttlDistribution", ttls);
+        stats.put("expiryMinuteOfHour", minutes);
+        return stats;
+    }
+
+    /**
+     * Latest cadence boundary plus publish delay at or before the given time
+     */
+    private long alignedExpiry(long latestMillis, ZoneId zone) {
+        long publishDelayMillis = publishDelaySeconds * 1000;
+        LocalDateTime time = Instant.ofEpochMilli(latestMillis - publishDelayMillis)
+                .atZone(zone)
+                .toLocalDateTime()
+                .truncatedTo(ChronoUnit.MINUTES);
+        long minuteOfDay = time.getHour() * 60L + time.getMinute();
+        LocalDateTime boundary = time.minusMinutes(minuteOfDay % cadenceMinutes);
+        return boundary.atZone(zone).toInstant().toEpochMilli() + publishDelayMillis;
+    }
+
+    private ZoneId resolveZone(String timezone) {
+        if (timezone == null || timezone.isEmpty()) {
+            return ZoneOffset.UTC;
+        }
+        try {
+            return ZoneId.of(timezone);
+        } catch (DateTimeException e) {
+            return ZoneOffset.UTC;
+        }
+    }
+
+    private void record(long nowMillis, long expiresAt) {
+        scheduled.increment();
+
+        long ttlSeconds = (expiresAt - nowMillis) / 1000;
+        int bucket = 0;
+        while (bucket < TTL_BUCKET_SECONDS.length && ttlSeconds >= TTL_BUCKET_SECONDS[bucket]) {
+            bucket++;
+        }
+        ttlBuckets.incrementAndGet(bucket);
+
+        int minute = Instant.ofEpochMilli(expiresAt).atZone(ZoneOffset.UTC).getMinute();
+        expiryMinuteOfHour.incrementAndGet(minute);
+    }
+}
@@ -0,0 +1,101 @@
+package com.weatherapi.service;
+
+import com.weatherapi.model.HotKey;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Pre-warms the cache with the persisted hot keys on startup. Runs as an
+ * ApplicationRunner, so the application only reports readiness once warming
+ * has finished or its time budget is used up.
+ */
+@Component
+public class CacheWarmer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmer.class);
+
+    private final WeatherService weatherService;
+    private final HotKeyTracker hotKeyTracker;
+
+    @Value("${weather.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${weather.warmup.max-keys:100}")
+    private int maxKeys;
+
+    @Value("${weather.warmup.rate-per-second:5}")
+    private int ratePerSecond;
+
+    @Value("${weather.warmup.timeout-seconds:60}")
+    private long timeoutSeconds;
+
+    public CacheWarmer(WeatherService weatherService, HotKeyTracker hotKeyTracker) {
+        this.weatherService = weatherService;
+        this.hotKeyTracker = hotKeyTracker;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        List<HotKey> hotKeys = hotKeyTracker.loadPersisted(maxKeys);
+        hotKeyTracker.restore(hotKeys);
+        if (hotKeys.isEmpty()) {
+            log.info("No persisted hot keys, skipping cache warm-up");
+            return;
+        }
+
+        log.info("Warming cache with {} hot keys", hotKeys.size());
+        Bucket throttle = createThrottle();
+        long deadline = System.currentTimeMillis() + Duration.ofSeconds(timeoutSeconds).toMillis();
+        int warmed = 0;
+
+        for (HotKey hotKey : hotKeys) {
+            if (System.currentTimeMillis() >= deadline) {
+                log.warn("Cache warm-up timed out after {} of {} keys", warmed, hotKeys.size());
+                break;
+            }
+            if (weatherService.isCached(hotKey.getCity())) {
+                continue;
+            }
+
+            try {
+                throttle.asBlocking().consume(1);
+                weatherService.warm(hotKey.getCity());
+                warmed++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("Error warming cache for city {}: {}", hotKey.getCity(), e.getMessage());
+            }
+        }
+
+        log.info("Cache warm-up finished, fetched {} entries", warmed);
+    }
+
+    /**
+     * Limit warm-up fetches so a cold start does not flood the upstream API
+     */
+    private Bucket createThrottle() {
+        Bandwidth limit = Bandwidth.classic(
+                ratePerSecond,
+                Refill.greedy(ratePerSecond, Duration.ofSeconds(1))
+        );
+        return Bucket.builder()
+                .addLimit(limit)
+                .build();
+    }
+}
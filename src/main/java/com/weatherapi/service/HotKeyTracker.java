@@ -0,0 +1,268 @@
+package com.weatherapi.service;
+
+import com.weatherapi.model.HotKey;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tracks request frequency per cache key with a count-min sketch and keeps
+ * the heaviest hitters in a small top-K table. The top-K is merged into a
+ * shared table in Redis periodically so a freshly started replica knows
+ * which cities to pre-warm.
+ */
+@Component
+public class HotKeyTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(HotKeyTracker.class);
+
+    private static final String SCORES_KEY = "hotkeys:weather:scores";
+    private static final String CITIES_KEY = "hotkeys:weather:cities";
+    private static final String STAGING_KEY = "hotkeys:weather:staging";
+    private static final Duration PERSISTED_TTL = Duration.ofDays(7);
+    private static final int SKETCH_DEPTH = 4;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Value("${weather.hotkeys.top-k:100}")
+    private int topK;
+
+    @Value("${weather.hotkeys.sketch-width:4096}")
+    private int sketchWidth;
+
+    private AtomicLongArray sketch;
+
+    // Guarded by itself
+    private final Map<String, HotKey> topKeys = new HashMap<>();
+
+    // Smallest count in a full top-K table, lets most records skip the lock
+    private volatile long minTopCount;
+
+    public HotKeyTracker(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    @PostConstruct
+    void init() {
+        this.sketch = new AtomicLongArray(SKETCH_DEPTH * sketchWidth);
+    }
+
+    /**
+     * Record one request for the given cache key
+     */
+    public void record(String key, String city) {
+        record(key, city, 1);
+    }
+
+    /**
+     * Record a weighted number of requests for the given cache key
+     */
+    public void record(String key, String city, long weight) {
+        long estimate = increment(key, weight);
+        if (estimate <= minTopCount) {
+            return;
+        }
+
+        synchronized (topKeys) {
+            HotKey existing = topKeys.get(key);
+            if (existing != null) {
+                existing.setCount(estimate);
+            } else if (topKeys.size() < topK) {
+                topKeys.put(key, new HotKey(key, city, estimate));
+            } else {
+                HotKey coldest = findColdest();
+                if (coldest != null && estimate > coldest.getCount()) {
+                    topKeys.remove(coldest.getKey());
+                    topKeys.put(key, new HotKey(key, city, estimate));
+                }
+            }
+
+            if (topKeys.size() >= topK) {
+                HotKey coldest = findColdest();
+                minTopCount = coldest != null ? coldest.getCount() : 0;
+            }
+        }
+    }
+
+    /**
+     * Current heavy hitters, hottest first
+     */
+    public List<HotKey> getTopKeys(int limit) {
+        List<HotKey> snapshot = new ArrayList<>();
+        synchronized (topKeys) {
+            for (HotKey hotKey : topKeys.values()) {
+                snapshot.add(new HotKey(hotKey.getKey(), hotKey.getCity(), hotKey.getCount()));
+            }
+        }
+        snapshot.sort(Comparator.comparingLong(HotKey::getCount).reversed());
+        return snapshot.subList(0, Math.max(0, Math.min(limit, snapshot.size())));
+    }
+
+    /**
+     * Merge the current top-K into the shared table in Redis and age all
+     * counters so that popularity from previous periods fades out.
+     * The merge runs in one transaction, so a replica starting up never sees
+     * a partial table. Shared scores are halved on every merge and each key
+     * keeps the higher of that and this replica's count, so keys hot on
+     * other replicas are kept. The table is then trimmed to the top K.
+     */
+    @Scheduled(initialDelayString = "${weather.hotkeys.persist-interval-ms:300000}",
+               fixedDelayString = "${weather.hotkeys.persist-interval-ms:300000}")
+    public void persist() {
+        List<HotKey> hotKeys = getTopKeys(topK);
+        if (hotKeys.isEmpty()) {
+            return;
+        }
+
+        try {
+            Set<ZSetOperations.TypedTuple<String>> scores = new HashSet<>();
+            Map<String, String> cities = new HashMap<>();
+            for (HotKey hotKey : hotKeys) {
+                scores.add(ZSetOperations.TypedTuple.of(hotKey.getKey(), (double) hotKey.getCount()));
+                cities.put(hotKey.getKey(), hotKey.getCity());
+            }
+
+            List<Object> results = stringRedisTemplate.execute(new SessionCallback<List<Object>>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> List<Object> execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> redis = (RedisOperations<String, String>) operations;
+                    redis.multi();
+                    redis.delete(STAGING_KEY);
+                    redis.opsForZSet().add(STAGING_KEY, scores);
+                    redis.opsForZSet().unionAndStore(SCORES_KEY, List.of(STAGING_KEY), SCORES_KEY,
+                            Aggregate.MAX, Weights.of(0.5, 1));
+                    redis.delete(STAGING_KEY);
+                    redis.opsForHash().putAll(CITIES_KEY, cities);
+                    redis.opsForZSet().range(SCORES_KEY, 0, -(topK + 1L));
+                    redis.opsForZSet().removeRange(SCORES_KEY, 0, -(topK + 1L));
+                    redis.expire(SCORES_KEY, PERSISTED_TTL);
+                    redis.expire(CITIES_KEY, PERSISTED_TTL);
+                    return redis.exec();
+                }
+            });
+            removeTrimmedCities(results);
+            log.info("Persisted {} hot keys", hotKeys.size());
+        } catch (Exception e) {
+            log.warn("Error persisting hot keys: {}", e.getMessage());
+        }
+
+        decay();
+    }
+
+    /**
+     * Drop the cities of the keys trimmed from the shared table. Done after
+     * the transaction, so a key merged back in meanwhile may lose its city
+     * until the next merge; loading skips keys without a city.
+     */
+    private void removeTrimmedCities(List<Object> results) {
+        if (results == null) {
+            return;
+        }
+        for (Object result : results) {
+            if (result instanceof Set<?> trimmed && !trimmed.isEmpty()) {
+                stringRedisTemplate.opsForHash().delete(CITIES_KEY, trimmed.toArray());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Load the persisted top-K from Redis, hottest first
+     */
+    public List<HotKey> loadPersisted(int limit) {
+        List<HotKey> hotKeys = new ArrayList<>();
+        try {
+            Set<ZSetOperations.TypedTuple<String>> scores =
+                    stringRedisTemplate.opsForZSet().reverseRangeWithScores(SCORES_KEY, 0, limit - 1);
+            if (scores == null || scores.isEmpty()) {
+                return hotKeys;
+            }
+
+            List<Object> keys = new ArrayList<>();
+            for (ZSetOperations.TypedTuple<String> score : scores) {
+                keys.add(score.getValue());
+            }
+            List<Object> cities = stringRedisTemplate.opsForHash().multiGet(CITIES_KEY, keys);
+
+            int i = 0;
+            for (ZSetOperations.TypedTuple<String> score : scores) {
+                Object city = cities.get(i++);
+                if (city != null && score.getScore() != null) {
+                    hotKeys.add(new HotKey(score.getValue(), city.toString(), score.getScore().longValue()));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Error loading persisted hot keys: {}", e.getMessage());
+        }
+        return hotKeys;
+    }
+
+    /**
+     * Seed the tracker with previously persisted counts
+     */
+    public void restore(List<HotKey> hotKeys) {
+        for (HotKey hotKey : hotKeys) {
+            record(hotKey.getKey(), hotKey.getCity(), hotKey.getCount());
+        }
+    }
+
+    private long increment(String key, long weight) {
+        int h1 = key.hashCode();
+        int h2 = spread(h1);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < SKETCH_DEPTH; row++) {
+            int column = ((h1 + row * h2) & Integer.MAX_VALUE) % sketchWidth;
+            estimate = Math.min(estimate, sketch.addAndGet(row * sketchWidth + column, weight));
+        }
+        return estimate;
+    }
+
+    private void decay() {
+        for (int i = 0; i < sketch.length(); i++) {
+            sketch.getAndUpdate(i, count -> count >> 1);
+        }
+        synchronized (topKeys) {
+            topKeys.values().forEach(hotKey -> hotKey.setCount(hotKey.getCount() >> 1));
+            minTopCount = minTopCount >> 1;
+        }
+    }
+
+    private HotKey findColdest() {
+        HotKey coldest = null;
+        for (HotKey hotKey : topKeys.values()) {
+            if (coldest == null || hotKey.getCount() < coldest.getCount()) {
+                coldest = hotKey;
+            }
+        }
+        return coldest;
+    }
+
+    private static int spread(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h | 1;
+    }
+}
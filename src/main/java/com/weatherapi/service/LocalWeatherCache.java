@@ -0,0 +1,148 @@
+package com.weatherapi.service;
+
+import com.weatherapi.model.CompactWeather;
+import com.weatherapi.model.WeatherResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded in-process LRU cache in front of Redis. Entries are held in their
+ * compact columnar form and expanded to a WeatherResponse on every read.
+ * Also remembers resolved query aliases, so cache hits need no Redis lookup.
+ */
+@Component
+public class LocalWeatherCache {
+
+    @Value("${weather.cache.local.enabled:true}")
+    private boolean enabled;
+
+    @Value("${weather.cache.local.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${weather.cache.local.ttl:300}")
+    private long localTtlSeconds;
+
+    // Guarded by itself
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    // Query key -> canonical cache key, guarded by itself
+    private final Map<String, Alias> aliases = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Alias> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    /**
+     * Get a cached response, or null if missing or expired
+     */
+    public WeatherResponse get(String key) {
+        if (!enabled) {
+            return null;
+        }
+
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && entry.expiresAt <= System.currentTimeMillis()) {
+                entries.remove(key);
+                entry = null;
+            }
+        }
+        return entry != null ? entry.value.toResponse() : null;
+    }
+
+    /**
+     * Check for an unexpired entry without expanding it
+     */
+    public boolean contains(String key) {
+        if (!enabled) {
+            return false;
+        }
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            return entry != null && entry.expiresAt > System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Cache a response for at most the given TTL, capped by the local TTL
+     */
+    public void put(String key, WeatherResponse response, long ttlMillis) {
+        if (!enabled) {
+            return;
+        }
+
+        long expiresIn = Math.min(ttlMillis, localTtlSeconds * 1000);
+        Entry entry = new Entry(CompactWeather.from(response), System.currentTimeMillis() + expiresIn);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Get the canonical cache key for a query key, or null if not known here
+     */
+    public String getAlias(String queryKey) {
+        if (!enabled) {
+            return null;
+        }
+
+        synchronized (aliases) {
+            Alias alias = aliases.get(queryKey);
+            if (alias != null && alias.expiresAt <= System.currentTimeMillis()) {
+                aliases.remove(queryKey);
+                alias = null;
+            }
+            return alias != null ? alias.canonicalKey : null;
+        }
+    }
+
+    /**
+     * Remember a query alias for at most the local TTL
+     */
+    public void putAlias(String queryKey, String canonicalKey) {
+        if (!enabled) {
+            return;
+        }
+
+        Alias alias = new Alias(canonicalKey, System.currentTimeMillis() + localTtlSeconds * 1000);
+        synchronized (aliases) {
+            aliases.put(queryKey, alias);
+        }
+    }
+
+    public void evict(String key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public void evictByPrefix(String prefix) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        synchronized (aliases) {
+            aliases.clear();
+        }
+    }
+
+    private record Entry(CompactWeather value, long expiresAt) {}
+
+    private record Alias(String canonicalKey, long expiresAt) {}
+}
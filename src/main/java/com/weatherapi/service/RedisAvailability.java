@@ -0,0 +1,62 @@
+package com.weatherapi.service;
+
+import io.lettuce.core.RedisCommandExecutionException;
+import io.lettuce.core.RedisException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers that Redis was unreachable so that callers can skip it for a
+ * backoff window instead of waiting on the command timeout for every
+ * request while Redis restarts or fails over.
+ */
+@Component
+public class RedisAvailability {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisAvailability.class);
+
+    @Value("${weather.redis.backoff-seconds:10}")
+    private long backoffSeconds;
+
+    private volatile long downUntil;
+
+    /**
+     * Whether Redis should be tried, i.e. it is not within a backoff window
+     */
+    public boolean isAvailable() {
+        return System.currentTimeMillis() >= downUntil;
+    }
+
+    /**
+     * Start a backoff window if the failure means Redis is unreachable.
+     * Other failures (serialization, wrong type) leave Redis available.
+     */
+    public void recordFailure(Exception e) {
+        if (!isUnreachable(e)) {
+            return;
+        }
+        if (isAvailable()) {
+            log.warn("Redis unavailable, skipping it for {} seconds: {}", backoffSeconds, e.getMessage());
+        }
+        downUntil = System.currentTimeMillis() + backoffSeconds * 1000;
+    }
+
+    /**
+     * Connection failures and timeouts, and the plain Lettuce RedisException
+     * thrown for commands rejected or cancelled on a closed connection.
+     * Errors returned by the server itself still mean Redis is reachable.
+     */
+    private static boolean isUnreachable(Exception e) {
+        if (e instanceof RedisConnectionFailureException || e instanceof QueryTimeoutException) {
+            return true;
+        }
+        return e instanceof RedisSystemException
+                && e.getCause() instanceof RedisException
+                && !(e.getCause() instanceof RedisCommandExecutionException);
+    }
+}
@@ -0,0 +1,371 @@
+package com.weatherapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weatherapi.model.WeatherResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Optional node-local fallback tier: an append-only, memory-mapped file of
+ * serialized cache entries with an in-memory offset index. Written
+ * asynchronously on every cache save and read while Redis is unavailable.
+ * On startup the file is re-mapped and scanned to rebuild the index,
+ * so a restarted node comes back warm.
+ *
+ * Record layout: [int keyLength][key][long expiresAt][int valueLength][value].
+ * A record with valueLength 0 deletes the key; keyLength 0 marks the end.
+ */
+@Component
+public class SnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotStore.class);
+
+    private static final int RECORD_OVERHEAD = Integer.BYTES + Long.BYTES + Integer.BYTES;
+    private static final int MAX_PENDING_WRITES = 10_000;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${weather.snapshot.enabled:false}")
+    private boolean enabled;
+
+    @Value("${weather.snapshot.path:data/weather-snapshot.dat}")
+    private String path;
+
+    @Value("${weather.snapshot.max-size-mb:256}")
+    private int maxSizeMb;
+
+    // Replaced as a whole on compaction, so readers never see a half-swapped file
+    private volatile Segment segment;
+
+    // Single writer thread; all appends and compactions run on it
+    private ExecutorService writer;
+
+    // Saves queued on the writer. Only saves are dropped when it falls
+    // behind; deletes and clears are always queued so they are never lost.
+    private final AtomicInteger pendingSaves = new AtomicInteger();
+
+    public SnapshotStore(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    void open() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            Path file = Paths.get(path);
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            segment = Segment.open(file, capacity());
+            segment.scan();
+            log.info("Opened snapshot store {} with {} entries", file, segment.index.size());
+        } catch (IOException e) {
+            log.warn("Error opening snapshot store, disabling it: {}", e.getMessage());
+            enabled = false;
+            return;
+        }
+
+        writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void close() {
+        if (writer == null) {
+            return;
+        }
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        segment.close();
+    }
+
+    /**
+     * Get an unexpired entry, or null
+     */
+    public WeatherResponse get(String key) {
+        if (!enabled) {
+            return null;
+        }
+
+        Segment current = segment;
+        Slot slot = current.index.get(key);
+        if (slot == null || slot.expiresAt <= System.currentTimeMillis()) {
+            return null;
+        }
+
+        try {
+            byte[] value = new byte[slot.length];
+            current.buffer.get(slot.offset, value, 0, slot.length);
+            return objectMapper.readValue(value, WeatherResponse.class);
+        } catch (Exception e) {
+            log.warn("Error reading from snapshot store: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Append an entry in the background. Serialized on the caller's thread so
+     * later changes to the object are not picked up. Dropped if the writer is
+     * too far behind; the entry is still in Redis.
+     */
+    public void saveAsync(String key, WeatherResponse data, long expiresAt) {
+        if (!enabled) {
+            return;
+        }
+        if (pendingSaves.incrementAndGet() > MAX_PENDING_WRITES) {
+            pendingSaves.decrementAndGet();
+            log.debug("Snapshot writer is behind, dropping entry for key: {}", key);
+            return;
+        }
+
+        byte[] value;
+        try {
+            value = objectMapper.writeValueAsBytes(data);
+        } catch (Exception e) {
+            log.warn("Error serializing snapshot entry: {}", e.getMessage());
+            pendingSaves.decrementAndGet();
+            return;
+        }
+        boolean queued = submit(() -> {
+            try {
+                append(key, value, expiresAt);
+            } finally {
+                pendingSaves.decrementAndGet();
+            }
+        });
+        if (!queued) {
+            pendingSaves.decrementAndGet();
+        }
+    }
+
+    public void delete(String key) {
+        if (enabled) {
+            submit(() -> append(key, new byte[0], 0));
+        }
+    }
+
+    public void deleteByPrefix(String prefix) {
+        if (enabled) {
+            submit(() -> segment.index.keySet().stream()
+                    .filter(key -> key.startsWith(prefix))
+                    .toList()
+                    .forEach(key -> append(key, new byte[0], 0)));
+        }
+    }
+
+    public void clear() {
+        if (enabled) {
+            submit(() -> compact(true));
+        }
+    }
+
+    /**
+     * Drop expired, overwritten and deleted records once they take up more
+     * than half of the written part of the file.
+     */
+    @Scheduled(fixedDelayString = "${weather.snapshot.compact-interval-ms:600000}")
+    public void compactIfNeeded() {
+        if (enabled) {
+            submit(() -> {
+                if (segment.garbageBytes() * 2 > segment.writePosition) {
+                    compact(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Queue work on the writer. Returns false, dropping the work, once the
+     * writer has been shut down on close.
+     */
+    private boolean submit(Runnable work) {
+        try {
+            writer.execute(work);
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.debug("Snapshot store is closed, dropping write");
+            return false;
+        }
+    }
+
+    private void append(String key, byte[] value, long expiresAt) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int recordSize = RECORD_OVERHEAD + keyBytes.length + value.length;
+        if (!segment.fits(recordSize)) {
+            compact(false);
+            if (!segment.fits(recordSize)) {
+                log.warn("Snapshot store is full, dropping entry for key: {}", key);
+                return;
+            }
+        }
+        segment.append(key, keyBytes, value, expiresAt);
+    }
+
+    /**
+     * Rewrite the live, unexpired entries into a fresh file and swap it in
+     */
+    private void compact(boolean dropAll) {
+        Segment old = segment;
+        Path file = Paths.get(path);
+        Path compacted = Paths.get(path + ".compact");
+        try {
+            Files.deleteIfExists(compacted);
+            Segment fresh = Segment.open(compacted, capacity());
+            if (!dropAll) {
+                long now = System.currentTimeMillis();
+                for (Map.Entry<String, Slot> entry : old.index.entrySet()) {
+                    Slot slot = entry.getValue();
+                    if (slot.expiresAt <= now) {
+                        continue;
+                    }
+                    byte[] value = new byte[slot.length];
+                    old.buffer.get(slot.offset, value, 0, slot.length);
+                    String key = entry.getKey();
+                    fresh.append(key, key.getBytes(StandardCharsets.UTF_8), value, slot.expiresAt);
+                }
+            }
+            fresh.buffer.force();
+            Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            segment = fresh;
+            old.close();
+            log.info("Compacted snapshot store to {} entries ({} bytes)", fresh.index.size(), fresh.writePosition);
+        } catch (IOException e) {
+            log.warn("Error compacting snapshot store: {}", e.getMessage());
+        }
+    }
+
+    private int capacity() {
+        return (int) Math.min((long) maxSizeMb * 1024 * 1024, Integer.MAX_VALUE);
+    }
+
+    private record Slot(int offset, int length, long expiresAt, int recordSize) {}
+
+    private static final class Segment {
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final Map<String, Slot> index = new ConcurrentHashMap<>();
+        private int writePosition;
+        private long liveBytes;
+
+        private Segment(FileChannel channel, MappedByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path file, int capacity) throws IOException {
+            FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new Segment(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+        }
+
+        /**
+         * Rebuild the index from the records in the file, stopping at the
+         * end marker or at the first record that does not fit
+         */
+        void scan() {
+            int position = 0;
+            while (position + RECORD_OVERHEAD <= buffer.capacity()) {
+                int keyLength = buffer.getInt(position);
+                if (keyLength <= 0 || position + RECORD_OVERHEAD + keyLength > buffer.capacity()) {
+                    break;
+                }
+                byte[] keyBytes = new byte[keyLength];
+                buffer.get(position + Integer.BYTES, keyBytes, 0, keyLength);
+                long expiresAt = buffer.getLong(position + Integer.BYTES + keyLength);
+                int valueLength = buffer.getInt(position + Integer.BYTES + keyLength + Long.BYTES);
+                int recordSize = RECORD_OVERHEAD + keyLength + valueLength;
+                if (valueLength < 0 || position + recordSize > buffer.capacity()) {
+                    break;
+                }
+                index(new String(keyBytes, StandardCharsets.UTF_8), position, keyLength, valueLength, expiresAt);
+                position += recordSize;
+            }
+            writePosition = position;
+        }
+
+        boolean fits(int recordSize) {
+            // Keep room for the end marker
+            return writePosition + recordSize + Integer.BYTES <= buffer.capacity();
+        }
+
+        void append(String key, byte[] keyBytes, byte[] value, long expiresAt) {
+            int position = writePosition;
+            buffer.putInt(position + RECORD_OVERHEAD + keyBytes.length + value.length, 0);
+            buffer.put(position + Integer.BYTES, keyBytes);
+            buffer.putLong(position + Integer.BYTES + keyBytes.length, expiresAt);
+            buffer.putInt(position + Integer.BYTES + keyBytes.length + Long.BYTES, value.length);
+            buffer.put(position + RECORD_OVERHEAD + keyBytes.length, value);
+            // Written last so a crash mid-append leaves the previous end marker
+            buffer.putInt(position, keyBytes.length);
+
+            writePosition = position + RECORD_OVERHEAD + keyBytes.length + value.length;
+            index(key, position, keyBytes.length, value.length, expiresAt);
+        }
+
+        long garbageBytes() {
+            long now = System.currentTimeMillis();
+            long expired = 0;
+            for (Slot slot : index.values()) {
+                if (slot.expiresAt <= now) {
+                    expired += slot.recordSize;
+                }
+            }
+            return writePosition - liveBytes + expired;
+        }
+
+        void close() {
+            try {
+                buffer.force();
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Error closing snapshot store: {}", e.getMessage());
+            }
+        }
+
+        private void index(String key, int position, int keyLength, int valueLength, long expiresAt) {
+            Slot previous;
+            if (valueLength == 0) {
+                previous = index.remove(key);
+            } else {
+                int recordSize = RECORD_OVERHEAD + keyLength + valueLength;
+                previous = index.put(key, new Slot(position + RECORD_OVERHEAD + keyLength, valueLength, expiresAt, recordSize));
+                liveBytes += recordSize;
+            }
+            if (previous != null) {
+                liveBytes -= previous.recordSize;
+            }
+        }
+    }
+}
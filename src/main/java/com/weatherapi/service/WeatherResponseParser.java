@@ -0,0 +1,207 @@
+package com.weatherapi.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.weatherapi.model.CurrentConditions;
+import com.weatherapi.model.DayWeather;
+import com.weatherapi.model.HourWeather;
+import com.weatherapi.model.WeatherResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming parser for the Visual Crossing timeline response. Reads tokens
+ * straight from the response stream into the model and skips every field
+ * the model does not use without binding it.
+ */
+public class WeatherResponseParser {
+
+    private final JsonFactory jsonFactory;
+
+    public WeatherResponseParser(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * Parse a timeline response, or return null for an empty body
+     */
+    public WeatherResponse parse(InputStream body) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return null;
+            }
+            expect(parser, JsonToken.START_OBJECT);
+            return readResponse(parser);
+        }
+    }
+
+    private WeatherResponse readResponse(JsonParser parser) throws IOException {
+        WeatherResponse response = new WeatherResponse();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "resolvedAddress" -> response.setResolvedAddress(readString(parser));
+                case "address" -> response.setAddress(readString(parser));
+                case "timezone" -> response.setTimezone(readString(parser));
+                case "latitude" -> response.setLatitude(readDouble(parser));
+                case "longitude" -> response.setLongitude(readDouble(parser));
+                case "days" -> response.setDays(readDays(parser));
+                case "currentConditions" -> response.setCurrentConditions(readCurrentConditions(parser));
+                default -> parser.skipChildren();
+            }
+        }
+        return response;
+    }
+
+    private List<DayWeather> readDays(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+
+        List<DayWeather> days = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (token == JsonToken.START_OBJECT) {
+                days.add(readDay(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return days;
+    }
+
+    private DayWeather readDay(JsonParser parser) throws IOException {
+        DayWeather day = new DayWeather();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "datetime" -> day.setDatetime(readString(parser));
+                case "tempmax" -> day.setTempMax(readDouble(parser));
+                case "tempmin" -> day.setTempMin(readDouble(parser));
+                case "temp" -> day.setTemp(readDouble(parser));
+                case "humidity" -> day.setHumidity(readDouble(parser));
+                case "precip" -> day.setPrecip(readDouble(parser));
+                case "precipprob" -> day.setPrecipProb(readDouble(parser));
+                case "windspeed" -> day.setWindspeed(readDouble(parser));
+                case "pressure" -> day.setPressure(readDouble(parser));
+                case "cloudcover" -> day.setCloudcover(readDouble(parser));
+                case "visibility" -> day.setVisibility(readDouble(parser));
+                case "uvindex" -> day.setUvIndex(readDouble(parser));
+                case "conditions" -> day.setConditions(readString(parser));
+                case "description" -> day.setDescription(readString(parser));
+                case "icon" -> day.setIcon(readString(parser));
+                case "hours" -> day.setHours(readHours(parser));
+                default -> parser.skipChildren();
+            }
+        }
+        return day;
+    }
+
+    private List<HourWeather> readHours(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+
+        List<HourWeather> hours = new ArrayList<>(24);
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (token == JsonToken.START_OBJECT) {
+                hours.add(readHour(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return hours;
+    }
+
+    private HourWeather readHour(JsonParser parser) throws IOException {
+        HourWeather hour = new HourWeather();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "datetime" -> hour.setDatetime(readString(parser));
+                case "temp" -> hour.setTemp(readDouble(parser));
+                case "humidity" -> hour.setHumidity(readDouble(parser));
+                case "precip" -> hour.setPrecip(readDouble(parser));
+                case "precipprob" -> hour.setPrecipProb(readDouble(parser));
+                case "windspeed" -> hour.setWindspeed(readDouble(parser));
+                case "pressure" -> hour.setPressure(readDouble(parser));
+                case "cloudcover" -> hour.setCloudcover(readDouble(parser));
+                case "visibility" -> hour.setVisibility(readDouble(parser));
+                case "uvindex" -> hour.setUvIndex(readDouble(parser));
+                case "conditions" -> hour.setConditions(readString(parser));
+                case "icon" -> hour.setIcon(readString(parser));
+                default -> parser.skipChildren();
+            }
+        }
+        return hour;
+    }
+
+    private CurrentConditions readCurrentConditions(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+
+        CurrentConditions current = new CurrentConditions();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "datetime" -> current.setDatetime(readString(parser));
+                case "temp" -> current.setTemp(readDouble(parser));
+                case "feelslike" -> current.setFeelsLike(readDouble(parser));
+                case "humidity" -> current.setHumidity(readDouble(parser));
+                case "precip" -> current.setPrecip(readDouble(parser));
+                case "precipprob" -> current.setPrecipProb(readDouble(parser));
+                case "windspeed" -> current.setWindspeed(readDouble(parser));
+                case "winddir" -> current.setWindDir(readDouble(parser));
+                case "pressure" -> current.setPressure(readDouble(parser));
+                case "cloudcover" -> current.setCloudcover(readDouble(parser));
+                case "visibility" -> current.setVisibility(readDouble(parser));
+                case "uvindex" -> current.setUvIndex(readDouble(parser));
+                case "conditions" -> current.setConditions(readString(parser));
+                case "icon" -> current.setIcon(readString(parser));
+                case "sunrise" -> current.setSunrise(readString(parser));
+                case "sunset" -> current.setSunset(readString(parser));
+                default -> parser.skipChildren();
+            }
+        }
+        return current;
+    }
+
+    private static String readString(JsonParser parser) throws IOException {
+        if (parser.currentToken().isStructStart()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getValueAsString();
+    }
+
+    private static Double readDouble(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token.isNumeric()) {
+            return parser.getDoubleValue();
+        }
+        if (token.isStructStart()) {
+            parser.skipChildren();
+        }
+        return null;
+    }
+
+    private static void expect(JsonParser parser, JsonToken expected) throws IOException {
+        if (parser.currentToken() != expected) {
+            throw new IOException("Unexpected token " + parser.currentToken() + ", expected " + expected);
+        }
+    }
+}
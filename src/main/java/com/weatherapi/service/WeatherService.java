@@ -2,27 +2,73 @@ package com.weatherapi.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.weatherapi.exception.WeatherApiException;
+import com.weatherapi.model.DayWeather;
+import com.weatherapi.model.HotKey;
 import com.weatherapi.model.WeatherResponse;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.geo.Circle;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.data.geo.GeoResults;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
+import org.springframework.data.redis.connection.RedisGeoCommands;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
 import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 public class WeatherService {
 
     private static final Logger log = LoggerFactory.getLogger(WeatherService.class);
 
+    // Upstream sections requested for a full fetch and for a current-only refresh
+    private static final String FULL_SECTIONS = "days,hours,current";
+    private static final String CURRENT_SECTION = "current";
+    private static final String RANGE_SECTIONS = "days,hours";
+    private static final String CURRENT_KEY_SUFFIX = ":current";
+    private static final String DAY_KEY_SUFFIX = ":day:";
+    private static final String GEO_KEY_PREFIX = "weather:geo:";
+    private static final String ALIAS_KEY_PREFIX = "weather:alias:";
+    private static final String GEO_INDEX_KEY = "weather:geoindex";
+    private static final int NEARBY_CANDIDATES = 5;
+    private static final int GEO_PRUNE_BATCH = 500;
+    private static final Pattern COORDINATES = Pattern.compile("^\\s*(-?\\d{1,3}(?:\\.\\d+)?)\\s*,\\s*(-?\\d{1,3}(?:\\.\\d+)?)\\s*$");
+
     private final RedisTemplate<String, WeatherResponse> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
     private final RestTemplate restTemplate;
+    private final WeatherResponseParser responseParser;
     private final ObjectMapper objectMapper;
+    private final HotKeyTracker hotKeyTracker;
+    private final LocalWeatherCache localCache;
+    private final CacheExpiryPolicy expiryPolicy;
+    private final SnapshotStore snapshotStore;
+    private final RedisAvailability redisAvailability;
     
     @Value("${weather.api.url}")
     private String weatherApiUrl;
@@ -32,18 +78,60 @@ public class WeatherService {
     
     @Value("${weather.cache.ttl}")
     private long cacheTtlSeconds;
+    
+    @Value("${weather.cache.current-ttl:900}")
+    private long currentTtlSeconds;
+    
+    @Value("${weather.cache.history-ttl:2592000}")
+    private long historyTtlSeconds;
+    
+    @Value("${weather.cache.alias-ttl:2592000}")
+    private long aliasTtlSeconds;
+    
+    @Value("${weather.range.max-days:31}")
+    private int maxRangeDays;
+    
+    @Value("${weather.geo.precision:6}")
+    private int geoHashPrecision;
+    
+    @Value("${weather.geo.radius-km:2.0}")
+    private double nearbyRadiusKm;
 
     public WeatherService(RedisTemplate<String, WeatherResponse> redisTemplate,
-                         ObjectMapper objectMapper) {
+                         StringRedisTemplate stringRedisTemplate,
+                         ObjectMapper objectMapper,
+                         HotKeyTracker hotKeyTracker,
+                         LocalWeatherCache localCache,
+                         CacheExpiryPolicy expiryPolicy,
+                         SnapshotStore snapshotStore,
+                         RedisAvailability redisAvailability) {
         this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
         this.restTemplate = new RestTemplate();
+        this.responseParser = new WeatherResponseParser(objectMapper.getFactory());
         this.objectMapper = objectMapper;
+        this.hotKeyTracker = hotKeyTracker;
+        this.localCache = localCache;
+        this.expiryPolicy = expiryPolicy;
+        this.snapshotStore = snapshotStore;
+        this.redisAvailability = redisAvailability;
+    }
+
+    @PostConstruct
+    void validateConfig() {
+        if (geoHashPrecision < 1 || geoHashPrecision > GeoHash.MAX_PRECISION) {
+            throw new IllegalStateException("weather.geo.precision must be between 1 and "
+                    + GeoHash.MAX_PRECISION + ", got " + geoHashPrecision);
+        }
     }
 
     /**
      * Get weather data for a city. Checks cache first, then fetches from API if needed.
+     * The forecast and the current conditions are cached separately with their own
+     * TTLs, so expired current conditions are refreshed without refetching the forecast.
+     * Coordinates ("lat,lon") may be served from a cached entry within the nearby radius.
      * 
-     * @param city The city name or location
+     * @param city The city name, location or "lat,lon" coordinates
      * @return WeatherResponse containing weather data
      */
     public WeatherResponse getWeather(String city) {
@@ -51,49 +139,226 @@ public class WeatherService {
             throw new WeatherApiException("City parameter is required", 400);
         }
 
-        String cacheKey = getCacheKey(city);
+        String cacheKey = resolveCacheKey(city);
+        // Hits are counted under the query's own key, not a nearby entry's
+        String hotKey = cacheKey;
         
-        // Try to get from cache first
-        WeatherResponse cachedWeather = getFromCache(cacheKey);
+        // Try to get from cache first, then from a cached entry nearby. Only a
+        // miss falls back to nearby entries; an entry picked for early refresh
+        // is refetched, or the nearby search would just find it again.
+        WeatherResponse cachedWeather = lookupCache(cacheKey);
         if (cachedWeather != null) {
+            cachedWeather = unlessRefreshingEarly(cacheKey, cachedWeather);
+        } else {
+            String nearbyKey = findNearbyKey(city);
+            WeatherResponse nearby = nearbyKey != null ? getFromCache(nearbyKey) : null;
+            if (nearby != null) {
+                log.info("Using cached entry {} near coordinates: {}", nearbyKey, city);
+                cacheKey = nearbyKey;
+                cachedWeather = nearby;
+            }
+        }
+        
+        if (cachedWeather == null) {
+            // Cache miss - fetch everything from API
+            log.info("Cache miss for city: {}. Fetching from API...", city);
+            WeatherResponse weatherResponse = fetchFromApi(city, FULL_SECTIONS);
+            
+            // Save to cache. A first-time alias only learns its canonical key
+            // here, so the request is counted under that key too.
+            String canonicalKey = canonicalCacheKey(city, cacheKey, weatherResponse);
+            saveSections(canonicalKey, weatherResponse);
+            hotKeyTracker.record(canonicalKey, city);
+            
+            weatherResponse.setSource("api");
+            weatherResponse.setCachedAt(System.currentTimeMillis());
+            
+            return weatherResponse;
+        }
+
+        hotKeyTracker.record(hotKey, city);
+        WeatherResponse cachedCurrent = getFromCache(cacheKey + CURRENT_KEY_SUFFIX);
+        if (cachedCurrent != null) {
             log.info("Cache hit for city: {}", city);
+            cachedWeather.setCurrentConditions(cachedCurrent.getCurrentConditions());
             cachedWeather.setSource("cache");
             return cachedWeather;
         }
 
-        // Cache miss - fetch from API
-        log.info("Cache miss for city: {}. Fetching from API...", city);
-        WeatherResponse weatherResponse = fetchFromApi(city);
+        // Only the current conditions expired - refresh them and reuse the cached forecast
+        log.info("Current conditions expired for city: {}. Refreshing current conditions...", city);
+        WeatherResponse current = fetchFromApi(city, CURRENT_SECTION);
+        saveToCache(cacheKey + CURRENT_KEY_SUFFIX, section(current, false, true), currentTtlSeconds);
         
-        // Save to cache
-        saveToCache(cacheKey, weatherResponse);
+        cachedWeather.setCurrentConditions(current.getCurrentConditions());
+        cachedWeather.setSource("partial");
+        
+        return cachedWeather;
+    }
+
+    /**
+     * Get daily weather data for a city over a date range. Days are cached
+     * individually, so only the contiguous spans of days missing from the
+     * cache are fetched from the API.
+     * 
+     * @param city The city name or location
+     * @param start First day of the range, defaults to end
+     * @param end Last day of the range, defaults to start
+     * @return WeatherResponse containing one entry per day in the range
+     */
+    public WeatherResponse getWeather(String city, LocalDate start, LocalDate end) {
+        if (start == null && end == null) {
+            return getWeather(city);
+        }
+        if (city == null || city.trim().isEmpty()) {
+            throw new WeatherApiException("City parameter is required", 400);
+        }
+
+        LocalDate first = start != null ? start : end;
+        LocalDate last = end != null ? end : start;
+        if (last.isBefore(first)) {
+            throw new WeatherApiException("End date must not be before start date", 400);
+        }
+        if (ChronoUnit.DAYS.between(first, last) + 1 > maxRangeDays) {
+            throw new WeatherApiException("Date range must not exceed " + maxRangeDays + " days", 400);
+        }
+        int dayCount = (int) ChronoUnit.DAYS.between(first, last) + 1;
+
+        String cacheKey = resolveCacheKey(city);
+        List<String> dayKeys = new ArrayList<>(dayCount);
+        for (int i = 0; i < dayCount; i++) {
+            dayKeys.add(cacheKey + DAY_KEY_SUFFIX + first.plusDays(i));
+        }
         
-        weatherResponse.setSource("api");
-        weatherResponse.setCachedAt(System.currentTimeMillis());
+        // Try to get each day from cache first
+        List<WeatherResponse> cachedDays = getAllFromCache(dayKeys);
+        WeatherResponse location = null;
+        DayWeather[] days = new DayWeather[dayCount];
+        for (int i = 0; i < dayCount; i++) {
+            WeatherResponse cachedDay = cachedDays.get(i);
+            if (cachedDay != null && cachedDay.getDays() != null && !cachedDay.getDays().isEmpty()) {
+                days[i] = cachedDay.getDays().get(0);
+                location = location != null ? location : cachedDay;
+            }
+        }
+
+        // Fetch each contiguous span of missing days
+        int fetched = 0;
+        for (int i = 0; i < dayCount; ) {
+            if (days[i] != null) {
+                i++;
+                continue;
+            }
+            int spanEnd = i;
+            while (spanEnd + 1 < dayCount && days[spanEnd + 1] == null) {
+                spanEnd++;
+            }
+
+            LocalDate spanStart = first.plusDays(i);
+            LocalDate spanLast = first.plusDays(spanEnd);
+            log.info("Cache miss for city: {} from {} to {}. Fetching from API...", city, spanStart, spanLast);
+            WeatherResponse span = fetchFromApi(city, spanStart, spanLast, RANGE_SECTIONS);
+            location = location != null ? location : span;
+            saveDays(cacheKey, span, first, days);
+
+            fetched += spanEnd - i + 1;
+            i = spanEnd + 1;
+        }
+
+        WeatherResponse weatherResponse = section(location, false, false);
+        List<DayWeather> dayList = new ArrayList<>(dayCount);
+        for (DayWeather day : days) {
+            if (day != null) {
+                dayList.add(day);
+            }
+        }
+        weatherResponse.setDays(dayList);
+        weatherResponse.setSource(fetched == 0 ? "cache" : fetched == dayCount ? "api" : "partial");
         
         return weatherResponse;
     }
 
     /**
-     * Fetch weather data from Visual Crossing API
+     * Check whether weather data for a city is currently cached
      */
-    private WeatherResponse fetchFromApi(String city) {
+    public boolean isCached(String city) {
+        if (!redisAvailability.isAvailable()) {
+            return false;
+        }
         try {
-            String url = UriComponentsBuilder.fromHttpUrl(weatherApiUrl)
-                    .pathSegment(city)
+            return Boolean.TRUE.equals(redisTemplate.hasKey(resolveCacheKey(city)));
+        } catch (Exception e) {
+            log.warn("Error checking cache: {}", e.getMessage());
+            redisAvailability.recordFailure(e);
+            return false;
+        }
+    }
+
+    /**
+     * Fetch weather data for a city and store it in the cache without
+     * counting it as a client request. Used for cache warm-up.
+     */
+    public void warm(String city) {
+        WeatherResponse weatherResponse = fetchFromApi(city, FULL_SECTIONS);
+        saveSections(canonicalCacheKey(city, resolveCacheKey(city), weatherResponse), weatherResponse);
+        log.info("Warmed cache for city: {}", city);
+    }
+
+    /**
+     * Most frequently requested cities, hottest first
+     */
+    public List<HotKey> getHotKeys(int limit) {
+        return hotKeyTracker.getTopKeys(limit);
+    }
+
+    /**
+     * Distribution of cache expiry times and early refreshes
+     */
+    public Map<String, Object> getExpiryStats() {
+        return expiryPolicy.getStats();
+    }
+
+    /**
+     * Fetch the default forecast from Visual Crossing API
+     * 
+     * @param include Comma-separated upstream sections to request
+     */
+    private WeatherResponse fetchFromApi(String city, String include) {
+        return fetchFromApi(city, null, null, include);
+    }
+
+    /**
+     * Fetch weather data from Visual Crossing API, for a date range if given
+     * 
+     * @param include Comma-separated upstream sections to request
+     */
+    private WeatherResponse fetchFromApi(String city, LocalDate start, LocalDate end, String include) {
+        try {
+            UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(weatherApiUrl)
+                    .pathSegment(city);
+            if (start != null) {
+                builder.pathSegment(start.toString(), end.toString());
+            }
+            String url = builder
                     .queryParam("key", weatherApiKey)
                     .queryParam("unitGroup", "metric")
-                    .queryParam("include", "current")
+                    .queryParam("include", include)
                     .toUriString();
 
             log.debug("Calling weather API: {}", url.replaceAll(weatherApiKey, "***"));
             
-            WeatherResponse response = restTemplate.getForObject(url, WeatherResponse.class);
+            // Parse straight from the response stream, skipping fields we don't use
+            long startedAt = System.currentTimeMillis();
+            WeatherResponse response = restTemplate.execute(url, HttpMethod.GET, null,
+                    clientResponse -> responseParser.parse(clientResponse.getBody()));
             
             if (response == null) {
                 throw new WeatherApiException("No data received from weather API", 500);
             }
             
+            // Fetch cost drives probabilistic early refresh
+            response.setFetchMillis(System.currentTimeMillis() - startedAt);
+            
             return response;
             
         } catch (HttpClientErrorException.NotFound e) {
@@ -112,26 +377,207 @@ public class WeatherService {
     }
 
     /**
-     * Get weather data from Redis cache
+     * Get weather data from the in-process cache, falling back to Redis, or
+     * to the local snapshot store while Redis is unavailable. A Redis miss is
+     * final: the entry may have been cleared from another instance, which
+     * only updates its own snapshot store.
+     * Returns null for entries picked for early refresh by the expiry policy.
      */
     private WeatherResponse getFromCache(String key) {
+        return unlessRefreshingEarly(key, lookupCache(key));
+    }
+
+    /**
+     * Like getFromCache, but without the early refresh check, so callers can
+     * tell a miss apart from an entry picked for early refresh
+     */
+    private WeatherResponse lookupCache(String key) {
+        WeatherResponse cached = localCache.get(key);
+        if (cached == null) {
+            cached = redisAvailability.isAvailable() ? getFromRedis(key) : getFromSnapshot(key);
+        }
+        return cached;
+    }
+
+    /**
+     * Return the entry, or null if the expiry policy picks it for early refresh
+     */
+    private WeatherResponse unlessRefreshingEarly(String key, WeatherResponse cached) {
+        if (cached != null && expiryPolicy.shouldRefreshEarly(cached, System.currentTimeMillis())) {
+            log.info("Refreshing cache entry early for key: {}", key);
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * Get several entries at once, from the in-process cache where possible
+     * and from Redis in a single round trip for the rest, or from the local
+     * snapshot store while Redis is unavailable. The result has a null for
+     * every key that is missing or picked for early refresh.
+     */
+    private List<WeatherResponse> getAllFromCache(List<String> keys) {
+        List<WeatherResponse> results = new ArrayList<>(keys.size());
+        List<String> redisKeys = new ArrayList<>();
+        boolean redisFailed = !redisAvailability.isAvailable();
+        for (String key : keys) {
+            WeatherResponse local = localCache.get(key);
+            results.add(local);
+            if (local == null) {
+                redisKeys.add(key);
+            }
+        }
+
+        if (!redisKeys.isEmpty() && !redisFailed) {
+            try {
+                List<WeatherResponse> fromRedis = redisTemplate.opsForValue().multiGet(redisKeys);
+                int next = 0;
+                for (int i = 0; i < results.size() && fromRedis != null; i++) {
+                    if (results.get(i) == null) {
+                        WeatherResponse cached = fromRedis.get(next++);
+                        if (cached != null && cached.getExpiresAt() != null) {
+                            localCache.put(keys.get(i), cached, cached.getExpiresAt() - System.currentTimeMillis());
+                        }
+                        results.set(i, cached);
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("Error reading from cache: {}", e.getMessage());
+                redisAvailability.recordFailure(e);
+                redisFailed = true;
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null && redisFailed) {
+                results.set(i, getFromSnapshot(keys.get(i)));
+            }
+            WeatherResponse cached = results.get(i);
+            if (cached != null && expiryPolicy.shouldRefreshEarly(cached, now)) {
+                results.set(i, null);
+            }
+        }
+        return results;
+    }
+
+    private WeatherResponse getFromRedis(String key) {
         try {
-            return redisTemplate.opsForValue().get(key);
+            WeatherResponse cached = redisTemplate.opsForValue().get(key);
+            if (cached != null && cached.getExpiresAt() != null) {
+                localCache.put(key, cached, cached.getExpiresAt() - System.currentTimeMillis());
+            }
+            return cached;
         } catch (Exception e) {
             log.warn("Error reading from cache: {}", e.getMessage());
-            return null;
+            redisAvailability.recordFailure(e);
+            return getFromSnapshot(key);
         }
     }
 
+    private WeatherResponse getFromSnapshot(String key) {
+        WeatherResponse cached = snapshotStore.get(key);
+        if (cached != null && cached.getExpiresAt() != null) {
+            log.info("Snapshot hit for key: {}", key);
+            localCache.put(key, cached, cached.getExpiresAt() - System.currentTimeMillis());
+        }
+        return cached;
+    }
+
+    /**
+     * Save the forecast and the current conditions of a full response as
+     * separate cache entries, each with its own TTL
+     */
+    private void saveSections(String key, WeatherResponse data) {
+        saveToCache(key, section(data, true, false), cacheTtlSeconds);
+        saveToCache(key + CURRENT_KEY_SUFFIX, section(data, false, true), currentTtlSeconds);
+        indexLocation(key, data);
+    }
+
+    /**
+     * Cache each day of a range response under its own key and place it in
+     * the days array at its offset from the range start. Days that can no
+     * longer change are cached with the long history TTL.
+     */
+    private void saveDays(String key, WeatherResponse data, LocalDate rangeStart, DayWeather[] days) {
+        if (data.getDays() == null) {
+            return;
+        }
+
+        LocalDate today = LocalDate.now(resolveZone(data.getTimezone()));
+        for (DayWeather day : data.getDays()) {
+            LocalDate date;
+            try {
+                date = LocalDate.parse(day.getDatetime());
+            } catch (Exception e) {
+                log.warn("Skipping day with invalid date: {}", day.getDatetime());
+                continue;
+            }
+
+            long offset = ChronoUnit.DAYS.between(rangeStart, date);
+            if (offset < 0 || offset >= days.length) {
+                continue;
+            }
+            days[(int) offset] = day;
+
+            WeatherResponse dayEntry = section(data, false, false);
+            dayEntry.setDays(List.of(day));
+            
+            // Observations for days before yesterday are final
+            long ttl = date.isBefore(today.minusDays(1)) ? historyTtlSeconds : cacheTtlSeconds;
+            saveToCache(key + DAY_KEY_SUFFIX + date, dayEntry, ttl);
+        }
+    }
+
+    private ZoneId resolveZone(String timezone) {
+        try {
+            return timezone != null ? ZoneId.of(timezone) : ZoneOffset.UTC;
+        } catch (DateTimeException e) {
+            return ZoneOffset.UTC;
+        }
+    }
+
+    /**
+     * Copy the location metadata of a response together with the selected sections
+     */
+    private WeatherResponse section(WeatherResponse data, boolean includeDays, boolean includeCurrent) {
+        WeatherResponse section = new WeatherResponse();
+        section.setResolvedAddress(data.getResolvedAddress());
+        section.setAddress(data.getAddress());
+        section.setTimezone(data.getTimezone());
+        section.setLatitude(data.getLatitude());
+        section.setLongitude(data.getLongitude());
+        if (includeDays) {
+            section.setDays(data.getDays());
+        }
+        if (includeCurrent) {
+            section.setCurrentConditions(data.getCurrentConditions());
+        }
+        section.setFetchMillis(data.getFetchMillis());
+        section.setCachedAt(System.currentTimeMillis());
+        return section;
+    }
+
     /**
-     * Save weather data to Redis cache with expiration
+     * Save weather data to the in-process cache, the local snapshot store and
+     * Redis with an expiry chosen by the expiry policy, at most ttlSeconds from now
      */
-    private void saveToCache(String key, WeatherResponse data) {
+    private void saveToCache(String key, WeatherResponse data, long ttlSeconds) {
+        long now = System.currentTimeMillis();
+        data.setExpiresAt(expiryPolicy.expiresAt(now, ttlSeconds, data.getTimezone()));
+        long ttlMillis = data.getExpiresAt() - now;
+        
+        localCache.put(key, data, ttlMillis);
+        snapshotStore.saveAsync(key, data, data.getExpiresAt());
+        if (!redisAvailability.isAvailable()) {
+            return;
+        }
         try {
-            redisTemplate.opsForValue().set(key, data, cacheTtlSeconds, TimeUnit.SECONDS);
-            log.info("Cached weather data for key: {} (TTL: {} seconds)", key, cacheTtlSeconds);
+            redisTemplate.opsForValue().set(key, data, ttlMillis, TimeUnit.MILLISECONDS);
+            log.info("Cached weather data for key: {} (TTL: {} seconds)", key, ttlMillis / 1000);
         } catch (Exception e) {
             log.warn("Error saving to cache: {}", e.getMessage());
+            redisAvailability.recordFailure(e);
             // Don't fail the request if caching fails
         }
     }
@@ -143,23 +589,222 @@ public class WeatherService {
         return "weather:" + city.toLowerCase().trim().replaceAll("\\s+", "_");
     }
 
+    /**
+     * Resolve the cache key for a query. Coordinates are quantized to a
+     * geohash cell; free text follows a known alias to its canonical key.
+     * Aliases resolved before and queries cached under their own key are
+     * answered in-process, so local cache hits need no Redis lookup.
+     */
+    private String resolveCacheKey(String city) {
+        double[] coordinates = parseCoordinates(city);
+        if (coordinates != null) {
+            return GEO_KEY_PREFIX + GeoHash.encode(coordinates[0], coordinates[1], geoHashPrecision);
+        }
+
+        String cacheKey = getCacheKey(city);
+        String knownKey = localCache.getAlias(cacheKey);
+        if (knownKey != null) {
+            return knownKey;
+        }
+        if (localCache.contains(cacheKey) || !redisAvailability.isAvailable()) {
+            return cacheKey;
+        }
+        try {
+            String canonicalKey = stringRedisTemplate.opsForValue().get(ALIAS_KEY_PREFIX + cacheKey);
+            if (canonicalKey == null) {
+                return cacheKey;
+            }
+            localCache.putAlias(cacheKey, canonicalKey);
+            return canonicalKey;
+        } catch (Exception e) {
+            log.warn("Error reading alias: {}", e.getMessage());
+            redisAvailability.recordFailure(e);
+            return cacheKey;
+        }
+    }
+
+    /**
+     * Pick the key to cache a fresh response under. Free-text queries are
+     * keyed by the upstream's resolvedAddress, so aliases of the same place
+     * ("NYC", "New York, NY") share one entry; the query is remembered as an
+     * alias of that key.
+     */
+    private String canonicalCacheKey(String city, String cacheKey, WeatherResponse data) {
+        if (parseCoordinates(city) != null || data.getResolvedAddress() == null) {
+            return cacheKey;
+        }
+
+        String canonicalKey = getCacheKey(data.getResolvedAddress());
+        String queryKey = getCacheKey(city);
+        if (canonicalKey.equals(queryKey)) {
+            return canonicalKey;
+        }
+
+        localCache.putAlias(queryKey, canonicalKey);
+        if (redisAvailability.isAvailable()) {
+            try {
+                stringRedisTemplate.opsForValue().set(ALIAS_KEY_PREFIX + queryKey, canonicalKey,
+                        aliasTtlSeconds, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                log.warn("Error saving alias: {}", e.getMessage());
+                redisAvailability.recordFailure(e);
+            }
+        }
+        return canonicalKey;
+    }
+
+    /**
+     * Find the nearest cached entry within the nearby radius of a coordinate
+     * query. Index members whose entry has expired are dropped on the way.
+     */
+    private String findNearbyKey(String city) {
+        double[] coordinates = parseCoordinates(city);
+        if (coordinates == null || nearbyRadiusKm <= 0 || !redisAvailability.isAvailable()) {
+            return null;
+        }
+
+        try {
+            Circle area = new Circle(new Point(coordinates[1], coordinates[0]),
+                    new Distance(nearbyRadiusKm, Metrics.KILOMETERS));
+            GeoResults<RedisGeoCommands.GeoLocation<String>> results = stringRedisTemplate.opsForGeo()
+                    .radius(GEO_INDEX_KEY, area, RedisGeoCommands.GeoRadiusCommandArgs.newGeoRadiusArgs()
+                            .sortAscending()
+                            .limit(NEARBY_CANDIDATES));
+            if (results == null) {
+                return null;
+            }
+
+            for (GeoResult<RedisGeoCommands.GeoLocation<String>> result : results.getContent()) {
+                String key = result.getContent().getName();
+                if (Boolean.TRUE.equals(redisTemplate.hasKey(key))) {
+                    return key;
+                }
+                stringRedisTemplate.opsForGeo().remove(GEO_INDEX_KEY, key);
+            }
+        } catch (Exception e) {
+            log.warn("Error searching nearby cache entries: {}", e.getMessage());
+            redisAvailability.recordFailure(e);
+        }
+        return null;
+    }
+
+    /**
+     * Add a cached entry to the spatial index at the location the upstream resolved
+     */
+    private void indexLocation(String key, WeatherResponse data) {
+        if (data.getLatitude() == null || data.getLongitude() == null || !redisAvailability.isAvailable()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.opsForGeo().add(GEO_INDEX_KEY,
+                    new Point(data.getLongitude(), data.getLatitude()), key);
+        } catch (Exception e) {
+            log.warn("Error indexing cache entry location: {}", e.getMessage());
+            redisAvailability.recordFailure(e);
+        }
+    }
+
+    /**
+     * Drop spatial index members whose cache entry has expired. Nearby
+     * searches only drop the members they return, which never happens for
+     * locations that are only queried by name.
+     */
+    @Scheduled(initialDelayString = "${weather.geo.prune-interval-ms:600000}",
+               fixedDelayString = "${weather.geo.prune-interval-ms:600000}")
+    public void pruneGeoIndex() {
+        if (!redisAvailability.isAvailable()) {
+            return;
+        }
+
+        try {
+            List<String> expired = new ArrayList<>();
+            for (long start = 0; ; start += GEO_PRUNE_BATCH) {
+                Set<String> members = stringRedisTemplate.opsForZSet()
+                        .range(GEO_INDEX_KEY, start, start + GEO_PRUNE_BATCH - 1);
+                if (members == null || members.isEmpty()) {
+                    break;
+                }
+
+                List<String> batch = new ArrayList<>(members);
+                List<Object> exists = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    for (String key : batch) {
+                        connection.keyCommands().exists(key.getBytes(StandardCharsets.UTF_8));
+                    }
+                    return null;
+                });
+                for (int i = 0; i < batch.size(); i++) {
+                    if (!Boolean.TRUE.equals(exists.get(i))) {
+                        expired.add(batch.get(i));
+                    }
+                }
+            }
+
+            if (!expired.isEmpty()) {
+                stringRedisTemplate.opsForGeo().remove(GEO_INDEX_KEY, expired.toArray(new String[0]));
+                log.info("Pruned {} expired entries from the spatial index", expired.size());
+            }
+        } catch (Exception e) {
+            log.warn("Error pruning spatial index: {}", e.getMessage());
+            redisAvailability.recordFailure(e);
+        }
+    }
+
+    /**
+     * Parse a "lat,lon" query, or return null if it is not a valid coordinate pair
+     */
+    private double[] parseCoordinates(String city) {
+        Matcher matcher = COORDINATES.matcher(city);
+        if (!matcher.matches()) {
+            return null;
+        }
+        double latitude = Double.parseDouble(matcher.group(1));
+        double longitude = Double.parseDouble(matcher.group(2));
+        if (Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+            return null;
+        }
+        return new double[] {latitude, longitude};
+    }
+
     /**
      * Clear cache for a specific city
      */
     public void clearCache(String city) {
-        String cacheKey = getCacheKey(city);
+        String cacheKey = resolveCacheKey(city);
+        localCache.evict(cacheKey);
+        localCache.evict(cacheKey + CURRENT_KEY_SUFFIX);
+        localCache.evictByPrefix(cacheKey + DAY_KEY_SUFFIX);
+        snapshotStore.delete(cacheKey);
+        snapshotStore.delete(cacheKey + CURRENT_KEY_SUFFIX);
+        snapshotStore.deleteByPrefix(cacheKey + DAY_KEY_SUFFIX);
         try {
-            redisTemplate.delete(cacheKey);
+            redisTemplate.delete(List.of(cacheKey, cacheKey + CURRENT_KEY_SUFFIX));
+            stringRedisTemplate.opsForGeo().remove(GEO_INDEX_KEY, cacheKey);
+            
+            var dayKeys = redisTemplate.keys(escapeGlob(cacheKey + DAY_KEY_SUFFIX) + "*");
+            if (dayKeys != null && !dayKeys.isEmpty()) {
+                redisTemplate.delete(dayKeys);
+            }
             log.info("Cleared cache for city: {}", city);
         } catch (Exception e) {
             log.warn("Error clearing cache: {}", e.getMessage());
+            redisAvailability.recordFailure(e);
         }
     }
 
+    /**
+     * Escape Redis glob metacharacters, so a key taken from the query only
+     * matches itself in a KEYS pattern
+     */
+    private static String escapeGlob(String key) {
+        return key.replaceAll("([*?\\[\\]\\\\])", "\\\\$1");
+    }
+
     /**
      * Clear all weather cache
      */
     public void clearAllCache() {
+        localCache.clear();
+        snapshotStore.clear();
         try {
             var keys = redisTemplate.keys("weather:*");
             if (keys != null && !keys.isEmpty()) {
@@ -168,6 +813,7 @@ public class WeatherService {
             }
         } catch (Exception e) {
             log.warn("Error clearing all cache: {}", e.getMessage());
+            redisAvailability.recordFailure(e);
         }
     }
 }
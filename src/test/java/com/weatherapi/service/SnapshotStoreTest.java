@@ -0,0 +1,166 @@
+package com.weatherapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weatherapi.model.WeatherResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+
+class SnapshotStoreTest {
+
+    private static final long HOUR = 3_600_000;
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+    private SnapshotStore store;
+
+    @BeforeEach
+    void setUp() {
+        file = dir.resolve("snapshot.dat");
+        store = open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void reopenRestoresEntries() {
+        store.saveAsync("weather:london", response("London"), later());
+        store.saveAsync("weather:paris", response("Paris"), later());
+
+        reopen();
+
+        assertThat(store.get("weather:london").getResolvedAddress()).isEqualTo("London");
+        assertThat(store.get("weather:paris").getResolvedAddress()).isEqualTo("Paris");
+        assertThat(store.get("weather:rome")).isNull();
+    }
+
+    @Test
+    void reopenKeepsLatestValueForKey() {
+        store.saveAsync("weather:london", response("London v1"), later());
+        store.saveAsync("weather:london", response("London v2"), later());
+
+        reopen();
+
+        assertThat(store.get("weather:london").getResolvedAddress()).isEqualTo("London v2");
+    }
+
+    @Test
+    void deletedEntriesStayDeletedAfterReopen() {
+        store.saveAsync("weather:london", response("London"), later());
+        store.saveAsync("weather:paris", response("Paris"), later());
+        store.saveAsync("weather:paris:current", response("Paris"), later());
+        store.delete("weather:london");
+        store.deleteByPrefix("weather:paris");
+
+        reopen();
+
+        assertThat(store.get("weather:london")).isNull();
+        assertThat(store.get("weather:paris")).isNull();
+        assertThat(store.get("weather:paris:current")).isNull();
+    }
+
+    @Test
+    void expiredEntriesAreNotReturned() {
+        store.saveAsync("weather:london", response("London"), System.currentTimeMillis() - 1);
+        store.saveAsync("weather:paris", response("Paris"), later());
+
+        reopen();
+
+        assertThat(store.get("weather:london")).isNull();
+        assertThat(store.get("weather:paris")).isNotNull();
+    }
+
+    @Test
+    void compactionKeepsOnlyLatestLiveValues() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            store.saveAsync("weather:london", response("London v" + i), later());
+        }
+        store.saveAsync("weather:paris", response("Paris"), later());
+        store.saveAsync("weather:rome", response("Rome"), System.currentTimeMillis() - 1);
+        store.saveAsync("weather:berlin", response("Berlin"), later());
+        store.delete("weather:berlin");
+        store.compactIfNeeded();
+
+        reopen();
+
+        String contents = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        assertThat(occurrences(contents, "weather:london")).isEqualTo(1);
+        assertThat(occurrences(contents, "weather:paris")).isEqualTo(1);
+        assertThat(contents).doesNotContain("weather:rome", "weather:berlin");
+        assertThat(store.get("weather:london").getResolvedAddress()).isEqualTo("London v5");
+        assertThat(store.get("weather:paris").getResolvedAddress()).isEqualTo("Paris");
+    }
+
+    @Test
+    void clearDropsAllEntries() {
+        store.saveAsync("weather:london", response("London"), later());
+        store.clear();
+
+        reopen();
+
+        assertThat(store.get("weather:london")).isNull();
+    }
+
+    @Test
+    void writesAfterCloseAreDropped() {
+        store.close();
+
+        assertThatNoException().isThrownBy(() -> {
+            store.saveAsync("weather:london", response("London"), later());
+            store.delete("weather:london");
+            store.deleteByPrefix("weather:");
+            store.clear();
+            store.compactIfNeeded();
+        });
+
+        store = open();
+        assertThat(store.get("weather:london")).isNull();
+    }
+
+    private SnapshotStore open() {
+        SnapshotStore snapshotStore = new SnapshotStore(new ObjectMapper());
+        ReflectionTestUtils.setField(snapshotStore, "enabled", true);
+        ReflectionTestUtils.setField(snapshotStore, "path", file.toString());
+        ReflectionTestUtils.setField(snapshotStore, "maxSizeMb", 1);
+        snapshotStore.open();
+        return snapshotStore;
+    }
+
+    // Closing waits for queued writes, so the reopened store sees them all
+    private void reopen() {
+        store.close();
+        store = open();
+    }
+
+    private static WeatherResponse response(String resolvedAddress) {
+        WeatherResponse response = new WeatherResponse();
+        response.setResolvedAddress(resolvedAddress);
+        return response;
+    }
+
+    private static long later() {
+        return System.currentTimeMillis() + HOUR;
+    }
+
+    private static int occurrences(String text, String part) {
+        int count = 0;
+        for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}